@@ -18,10 +18,14 @@ package ball.maven.plugins.javadoc;
  * limitations under the License.
  * ##########################################################################
  */
-import java.net.URL;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -33,10 +37,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.plugin.AbstractMojo;
@@ -47,9 +53,17 @@ import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.repository.RepositorySystem;
+import org.apache.maven.shared.artifact.filter.StrictPatternIncludesArtifactFilter;
 import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResolver;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalArtifactResult;
+import org.eclipse.aether.repository.RemoteRepository;
 
+import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static lombok.AccessLevel.PROTECTED;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -57,6 +71,16 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
  * Abstract base class for javadoc {@link org.apache.maven.plugin.Mojo}s.
+ * If {@code useJavadocIndex} is {@code true}, offline link
+ * {@link Artifact}s are resolved from the (much smaller)
+ * {@code javadoc-index} artifacts published by
+ * {@link AttachJavadocIndexMojo} in preference to the javadoc jars.  An
+ * index already in the local repository is always used and, by default,
+ * the index is requested from remote repositories for every
+ * {@link Artifact} (falling back to the javadoc jar if it is not
+ * published).  {@code javadocIndexArtifacts} may be set to a list of
+ * patterns (same syntax as {@link Link#getArtifact()}) to narrow the
+ * remote index requests to the {@link Artifact}s known to publish it.
  *
  * {@injected.fields}
  *
@@ -75,6 +99,25 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "maven.javadoc.skip")
     private boolean skip = false;
 
+    @Parameter(property = "cacheDirectory",
+               defaultValue = "${settings.localRepository}/.cache/ball-javadoc-maven-plugin")
+    private File cacheDirectory = null;
+
+    @Parameter(defaultValue = "true", property = "localJdkElementList")
+    private boolean localJdkElementList = true;
+
+    @Parameter(defaultValue = "false", property = "refreshJavadoc")
+    private boolean refreshJavadoc = false;
+
+    @Parameter(defaultValue = "true", property = "useJavadocIndex")
+    private boolean useJavadocIndex = true;
+
+    @Parameter(defaultValue = "javadoc-index", property = "javadocIndexClassifier")
+    private String javadocIndexClassifier = "javadoc-index";
+
+    @Parameter(property = "javadocIndexArtifacts")
+    private String javadocIndexArtifacts = null;
+
     @Inject private MavenSession session = null;
     @Inject private ArtifactHandlerManager manager = null;
     @Inject private RepositorySystem system = null;
@@ -100,36 +143,52 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
     }
 
     /**
-     * Method to get the {@link Set} of {@link Link} {@link URL}s.
+     * Method to get the {@link Set} of {@link Link} {@link URI}s.
      *
      * @param   project         The {@link MavenProject}.
      * @param   includeDependencyManagement
      *                          Whether or not to include dependency
      *                          management in the analysis.
      *
-     * @return  The {@link Set} of {@link Link} {@link URL}s.
+     * @return  The {@link Set} of {@link Link} {@link URI}s.
+     */
+    protected Set<URI> getLinkSet(MavenProject project, boolean includeDependencyManagement) {
+        return getLinkSet(Collections.singleton(project), includeDependencyManagement);
+    }
+
+    /**
+     * Method to get the {@link Set} of {@link Link} {@link URI}s for the
+     * union of the argument {@link MavenProject}s.
+     *
+     * @param   projects        The {@link MavenProject}s.
+     * @param   includeDependencyManagement
+     *                          Whether or not to include dependency
+     *                          management in the analysis.
+     *
+     * @return  The {@link Set} of {@link Link} {@link URI}s.
      */
-    protected Set<URL> getLinkSet(MavenProject project, boolean includeDependencyManagement) {
-        Set<URL> set = new LinkedHashSet<>();
+    protected Set<URI> getLinkSet(Collection<MavenProject> projects, boolean includeDependencyManagement) {
+        Set<URI> set = new LinkedHashSet<>();
 
         for (Link link : links) {
             if (link.getArtifact() != null) {
-                Stream<Artifact> stream = project.getArtifacts().stream();
+                Stream<Artifact> stream = projects.stream().flatMap(t -> t.getArtifacts().stream());
 
                 if (includeDependencyManagement) {
                     stream =
                         Stream.concat(stream,
-                                      getDependencyManagementStream(project)
+                                      projects.stream()
+                                      .flatMap(this::getDependencyManagementStream)
                                       .filter(t -> isNotBlank(t.getVersion()))
                                       .map(JavadocArtifact::new));
                 }
 
                 stream
                     .filter(link::include)
-                    .map(link::getUrl)
+                    .map(link::toURI)
                     .forEach(set::add);
             } else {
-                set.add(link.getUrl());
+                set.add(link.toURI());
             }
         }
 
@@ -138,7 +197,7 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
 
     /**
      * Method to get the {@link Map} of {@link Offlinelink}
-     * {@link Artifact}s to {@link URL}s.
+     * {@link Artifact}s to {@link URI}s.
      *
      * @param   project         The {@link MavenProject}.
      * @param   includeDependencyManagement
@@ -146,28 +205,56 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
      *                          management in the analysis.
      *
      * @return  The {@link Map} of {@link Offlinelink} {@link Artifact}s to
-     *          {@link URL}s.
+     *          {@link URI}s.
      */
-    protected Map<Artifact,URL> getResolvedOfflinelinkMap(MavenProject project, boolean includeDependencyManagement) {
-        TreeMap<Artifact,URL> map = new TreeMap<>(Comparator.comparing(ArtifactUtils::versionlessKey));
+    protected Map<Artifact,URI> getResolvedOfflinelinkMap(MavenProject project, boolean includeDependencyManagement) {
+        return getResolvedOfflinelinkMap(Collections.singleton(project), includeDependencyManagement);
+    }
+
+    /**
+     * Method to get the {@link Map} of {@link Offlinelink}
+     * {@link Artifact}s to {@link URI}s for the union of the argument
+     * {@link MavenProject}s.  Each javadoc {@link Artifact} is resolved at
+     * most once regardless of the number of {@link MavenProject}s that
+     * depend on it and {@link Artifact}s produced by the argument
+     * {@link MavenProject}s themselves are not resolved.
+     *
+     * @param   projects        The {@link MavenProject}s.
+     * @param   includeDependencyManagement
+     *                          Whether or not to include dependency
+     *                          management in the analysis.
+     *
+     * @return  The {@link Map} of {@link Offlinelink} {@link Artifact}s to
+     *          {@link URI}s.
+     */
+    protected Map<Artifact,URI> getResolvedOfflinelinkMap(Collection<MavenProject> projects, boolean includeDependencyManagement) {
+        TreeMap<Artifact,URI> map = new TreeMap<>(Comparator.comparing(ArtifactUtils::versionlessKey));
+        Set<String> reactor =
+            projects.stream()
+            .map(t -> ArtifactUtils.versionlessKey(t.getGroupId(), t.getArtifactId()))
+            .collect(toSet());
 
         for (Offlinelink offlinelink : offlinelinks) {
-            project.getArtifacts().stream()
+            projects.stream()
+                .flatMap(t -> t.getArtifacts().stream())
                 .filter(t -> Objects.equals(t.getType(), "jar"))
-                .filter(t -> Objects.equals(t.getClassifier(), "javadoc"))
+                .filter(t -> (Objects.equals(t.getClassifier(), "javadoc")
+                              || Objects.equals(t.getClassifier(), javadocIndexClassifier)))
                 .filter(offlinelink::include)
-                .forEach(t -> map.putIfAbsent(t, offlinelink.getUrl()));
+                .forEach(t -> map.putIfAbsent(t, offlinelink.toURI(t)));
         }
 
         Set<Artifact> artifacts =
-            project.getArtifacts().stream()
+            projects.stream()
+            .flatMap(t -> t.getArtifacts().stream())
             .filter(t -> Objects.equals(t.getType(), "jar"))
             .filter(t -> isBlank(t.getClassifier()))
             .map(JavadocArtifact::new)
             .collect(toCollection(() -> new TreeSet<>(map.comparator())));
 
         if (includeDependencyManagement) {
-            getDependencyManagementStream(project)
+            projects.stream()
+                .flatMap(this::getDependencyManagementStream)
                 .filter(t -> Objects.equals(t.getType(), "jar"))
                 .filter(t -> isBlank(t.getClassifier()))
                 .filter(t -> isNotBlank(t.getVersion()))
@@ -176,8 +263,15 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
         }
 
         artifacts.removeAll(map.keySet());
+        artifacts.removeIf(t -> reactor.contains(ArtifactUtils.versionlessKey(t)));
 
         ProjectBuildingRequest request = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+        List<RemoteRepository> repositories =
+            projects.stream()
+            .map(t -> RepositoryUtils.toRepos(t.getRemoteArtifactRepositories()))
+            .flatMap(List::stream)
+            .distinct()
+            .collect(toList());
 
         for (Offlinelink offlinelink : offlinelinks) {
             Set<Artifact> set =
@@ -186,22 +280,20 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
                 .collect(toCollection(LinkedHashSet::new));
 
             for (Artifact artifact : set) {
-                URL url = map.get(artifact);
-
-                if (url == null) {
-                    log.info("Resolving {}...", artifact);
+                URI uri = map.get(artifact);
 
+                if (uri == null) {
                     try {
-                        Artifact key = resolver.resolveArtifact(request, artifact).getArtifact();
+                        Artifact key = resolve(request, repositories, artifact);
 
-                        map.putIfAbsent(key, offlinelink.getUrl(artifact));
+                        map.putIfAbsent(key, offlinelink.toURI(artifact));
                     } catch (Exception exception) {
                         log.warn("{}: {}", artifact, exception.getMessage());
                         log.debug("{}", exception);
                     }
                 } else {
-                    if (! Objects.equals(url, offlinelink.getUrl(artifact))) {
-                        log.warn("{} matches {} but was previously resolved with {}", artifact, offlinelink, url);
+                    if (! Objects.equals(uri, offlinelink.toURI(artifact))) {
+                        log.warn("{} matches {} but was previously resolved with {}", artifact, offlinelink, uri);
                     }
                 }
             }
@@ -210,6 +302,121 @@ public abstract class AbstractJavadocMojo extends AbstractMojo {
         return map;
     }
 
+    /*
+     * Candidates are tried in the order: local index, local javadoc jar,
+     * remote index, and remote javadoc jar.  The remote index is requested
+     * for every Artifact unless javadocIndexArtifacts narrows the set.
+     */
+    private Artifact resolve(ProjectBuildingRequest request,
+                             List<RemoteRepository> repositories, Artifact artifact) throws Exception {
+        Artifact resolved = null;
+        List<Artifact> candidates = new ArrayList<>();
+
+        if (useJavadocIndex) {
+            candidates.add(new DefaultArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(),
+                                               EMPTY, "jar", javadocIndexClassifier,
+                                               manager.getArtifactHandler("jar")));
+        }
+
+        candidates.add(artifact);
+
+        try (JfrEvent event = JfrEvent.RESOLVE.begin()) {
+            event.set("coordinates", artifact.toString());
+
+            try {
+                for (Artifact candidate : candidates) {
+                    resolved = findLocal(repositories, candidate);
+
+                    if (resolved != null) {
+                        break;
+                    }
+                }
+
+                if (resolved != null) {
+                    log.debug("Resolved {} from the local repository", resolved);
+                    event.set("outcome", "local");
+                } else {
+                    log.info("Resolving {}...", artifact);
+
+                    Exception failure = null;
+
+                    for (Artifact candidate : candidates) {
+                        if (candidate != artifact && (! isJavadocIndexPublished(artifact))) {
+                            continue;
+                        }
+
+                        try {
+                            resolved = resolver.resolveArtifact(request, candidate).getArtifact();
+                            break;
+                        } catch (Exception exception) {
+                            log.debug("{}: {}", candidate, exception.getMessage());
+                            failure = exception;
+                        }
+                    }
+
+                    if (resolved == null) {
+                        throw failure;
+                    }
+
+                    event.set("outcome", "resolved");
+                }
+
+                if (event.isEnabled()) {
+                    event.set("bytes", (resolved.getFile() != null) ? resolved.getFile().length() : 0L);
+                }
+            } catch (Exception exception) {
+                event.set("outcome", "failed: " + exception.getMessage());
+                throw exception;
+            }
+        }
+
+        return resolved;
+    }
+
+    private boolean isJavadocIndexPublished(Artifact artifact) {
+        boolean published = true;
+
+        if (isNotBlank(javadocIndexArtifacts)) {
+            ArtifactFilter filter =
+                new StrictPatternIncludesArtifactFilter(asList(javadocIndexArtifacts.split("[,\\p{Space}]+")));
+
+            published = filter.include(artifact);
+        }
+
+        return published;
+    }
+
+    /*
+     * Returns the Artifact if it is already present in the local
+     * repository (and its checksum, if recorded, matches) without
+     * consulting remote metadata; null otherwise.
+     */
+    private Artifact findLocal(List<RemoteRepository> repositories, Artifact artifact) {
+        Artifact local = null;
+
+        if (! (refreshJavadoc || session.getRequest().isUpdateSnapshots())) {
+            try {
+                RepositorySystemSession repositorySession = session.getRepositorySession();
+                LocalArtifactRequest request =
+                    new LocalArtifactRequest(RepositoryUtils.toArtifact(artifact), repositories, null);
+                LocalArtifactResult result =
+                    repositorySession.getLocalRepositoryManager().find(repositorySession, request);
+                File file = result.getFile();
+
+                if (result.isAvailable() && file != null && file.isFile()
+                    && new JavadocCache(cacheDirectory.toPath()).isChecksumValid(file)) {
+                    local = ArtifactUtils.copyArtifact(artifact);
+                    local.setFile(file);
+                    local.setResolved(true);
+                }
+            } catch (Exception exception) {
+                log.debug("{}: {}", artifact, exception.getMessage(), exception);
+            }
+        }
+
+        return local;
+    }
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
     }
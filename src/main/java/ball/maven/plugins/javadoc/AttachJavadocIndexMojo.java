@@ -0,0 +1,174 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import javax.inject.Inject;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+
+import static org.apache.maven.plugins.annotations.LifecyclePhase.PACKAGE;
+
+/**
+ * {@link org.apache.maven.plugin.Mojo} to attach a javadoc index artifact
+ * to the build.  The index is a small jar containing only the
+ * {@code element-list} and {@code package-list} of the project's
+ * generated javadoc.  Downstream builds that link to this project's
+ * javadoc resolve the index (classifier {@code javadoc-index}) in place of
+ * the complete javadoc jar when it is available.
+ *
+ * The lists are read from {@code javadocDirectory} or, if not found
+ * there, from the project's attached {@code javadoc} jar.
+ *
+ * {@injected.fields}
+ *
+ * {@maven.plugin.fields}
+ *
+ * {@bean.info}
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@Mojo(name = "attach-javadoc-index", defaultPhase = PACKAGE, requiresProject = true)
+@NoArgsConstructor @ToString @Slf4j
+public class AttachJavadocIndexMojo extends AbstractMojo {
+    private static final String ELEMENT_LIST = "element-list";
+    private static final String PACKAGE_LIST = "package-list";
+
+    @Parameter(defaultValue = "false", property = "maven.javadoc.skip")
+    private boolean skip = false;
+
+    @Parameter(defaultValue = "javadoc-index", property = "javadocIndexClassifier")
+    private String javadocIndexClassifier = "javadoc-index";
+
+    @Parameter(property = "javadocDirectory", defaultValue = "${project.build.directory}/apidocs")
+    private File javadocDirectory = null;
+
+    @Parameter(property = "outputDirectory", defaultValue = "${project.build.directory}")
+    private File outputDirectory = null;
+
+    @Parameter(property = "finalName", defaultValue = "${project.build.finalName}")
+    private String finalName = null;
+
+    @Inject private MavenProject project = null;
+    @Inject private MavenProjectHelper helper = null;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            if (! skip) {
+                byte[] elementList = read(ELEMENT_LIST);
+                byte[] packageList = read(PACKAGE_LIST);
+
+                if (elementList != null || packageList != null) {
+                    Path path = outputDirectory.toPath().resolve(finalName + "-" + javadocIndexClassifier + ".jar");
+
+                    Files.createDirectories(path.getParent());
+
+                    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(path))) {
+                        out.putNextEntry(new JarEntry(ELEMENT_LIST));
+                        out.write((elementList != null) ? elementList : packageList);
+                        out.closeEntry();
+
+                        out.putNextEntry(new JarEntry(PACKAGE_LIST));
+                        out.write((packageList != null) ? packageList : elementList);
+                        out.closeEntry();
+                    }
+
+                    helper.attachArtifact(project, "jar", javadocIndexClassifier, path.toFile());
+                } else {
+                    log.warn("No {} or {} found in {} or attached javadoc jar; skipping...",
+                             ELEMENT_LIST, PACKAGE_LIST, javadocDirectory);
+                }
+            } else {
+                log.info("Skipping javadoc index generation.");
+            }
+        } catch (Throwable throwable) {
+            log.error("{}", throwable.getMessage(), throwable);
+
+            if (throwable instanceof MojoExecutionException) {
+                throw (MojoExecutionException) throwable;
+            } else if (throwable instanceof MojoFailureException) {
+                throw (MojoFailureException) throwable;
+            } else {
+                throw new MojoExecutionException(throwable.getMessage(), throwable);
+            }
+        }
+    }
+
+    private byte[] read(String name) throws IOException {
+        byte[] bytes = null;
+        Path path = javadocDirectory.toPath().resolve(name);
+
+        if (Files.isRegularFile(path)) {
+            bytes = Files.readAllBytes(path);
+        } else {
+            Optional<File> jar =
+                project.getAttachedArtifacts().stream()
+                .filter(t -> Objects.equals(t.getClassifier(), "javadoc"))
+                .map(Artifact::getFile)
+                .filter(Objects::nonNull)
+                .findFirst();
+
+            if (jar.isPresent()) {
+                try (JarFile file = new JarFile(jar.get())) {
+                    JarEntry entry = file.getJarEntry(name);
+
+                    if (entry != null) {
+                        try (InputStream in = file.getInputStream(entry)) {
+                            bytes = readAllBytes(in);
+                        }
+                    }
+                }
+            }
+        }
+
+        return bytes;
+    }
+
+    private byte[] readAllBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count = 0;
+
+        while ((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+        }
+
+        return out.toByteArray();
+    }
+}
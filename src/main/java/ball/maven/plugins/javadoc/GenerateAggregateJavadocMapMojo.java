@@ -0,0 +1,64 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.util.Collection;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.project.MavenProject;
+
+import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME;
+
+/**
+ * Aggregator {@link org.apache.maven.plugin.Mojo} to generate a single
+ * offline javadoc map for all reactor {@link MavenProject}s.  The javadoc
+ * {@link org.apache.maven.artifact.Artifact}s of the union of the reactor
+ * dependencies are resolved once and the output is written to the
+ * execution root {@link MavenProject}.
+ *
+ * {@injected.fields}
+ *
+ * {@maven.plugin.fields}
+ *
+ * {@bean.info}
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@Mojo(name = "generate-aggregate-javadoc-map", aggregator = true, requiresDependencyResolution = RUNTIME,
+      requiresProject = true)
+@NoArgsConstructor @ToString @Slf4j
+public class GenerateAggregateJavadocMapMojo extends GenerateJavadocMapMojo {
+    @Override
+    protected Collection<MavenProject> getProjects() {
+        return getSession().getProjects();
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (getSession().getCurrentProject().isExecutionRoot()) {
+            super.execute();
+        } else {
+            log.info("Skipping aggregate javadoc map generation (not the execution root).");
+        }
+    }
+}
@@ -20,16 +20,20 @@ package ball.maven.plugins.javadoc;
  */
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.net.MalformedURLException;
+import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -46,7 +50,13 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_GONE;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME;
 
@@ -59,6 +69,16 @@ import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME;
  * The <i>package</i>-module and <i>package</i>-artifact key/values are
  * absent if no module or artifact respectively are specified.
  *
+ * Remote reads are bounded by a per-connection timeout and a goal-wide
+ * time budget.  A host that fails {@code maxHostFailures} consecutive
+ * times (any error other than HTTP 404 or 410) is skipped for the rest
+ * of the build and the degraded hosts are summarized at the end of the
+ * goal.  Remote list files are cached for {@code cacheTtl} hours (and
+ * HTTP 404/410 responses for {@code cacheMissTtl} minutes) in the shared
+ * {@code cacheDirectory}.  If {@code localJdkElementList} is
+ * {@code true}, the lists for JDK API documentation links are computed
+ * from the running JDK instead.
+ *
  * {@injected.fields}
  *
  * {@maven.plugin.fields}
@@ -86,20 +106,54 @@ public class GenerateJavadocMapMojo extends AbstractJavadocMojo {
     @Parameter(defaultValue = "true", property = "includeDependencyManagement")
     private boolean includeDependencyManagement = true;
 
+    @Parameter(defaultValue = "10", property = "remoteTimeout")
+    private int remoteTimeout = 10;
+
+    @Parameter(defaultValue = "120", property = "remoteTimeBudget")
+    private int remoteTimeBudget = 120;
+
+    @Parameter(defaultValue = "3", property = "maxHostFailures")
+    private int maxHostFailures = 3;
+
+    @Parameter(defaultValue = "24", property = "cacheTtl")
+    private int cacheTtl = 24;
+
+    @Parameter(defaultValue = "60", property = "cacheMissTtl")
+    private int cacheMissTtl = 60;
+
     @Inject private MavenProject project = null;
 
+    private HostCircuitBreaker breaker = null;
+    private JavadocCache cache = null;
+    private long deadline = 0;
+
+    /**
+     * Method to get the {@link MavenProject}s to analyze.  The default
+     * implementation returns the current {@link MavenProject} only.
+     *
+     * @return  The {@link Collection} of {@link MavenProject}s.
+     */
+    protected Collection<MavenProject> getProjects() {
+        return Collections.singleton(project);
+    }
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         super.execute();
 
         try {
             if (! isSkip()) {
+                breaker = HostCircuitBreaker.get(getSession());
+                cache = new JavadocCache(getCacheDirectory().toPath());
+                deadline = System.currentTimeMillis() + SECONDS.toMillis(remoteTimeBudget);
+
                 Properties properties = new Properties();
-                Map<Artifact,URL> map = getResolvedOfflinelinkMap(project, includeDependencyManagement);
+                Collection<MavenProject> projects = getProjects();
+                Map<Artifact,URI> map = getResolvedOfflinelinkMap(projects, includeDependencyManagement);
 
                 map.forEach((k, v) -> load(properties, k, v));
 
-                Set<URL> set = getLinkSet(project, includeDependencyManagement);
+                Set<URI> set = getLinkSet(projects, includeDependencyManagement);
 
                 set.removeAll(map.values());
                 set.forEach(t -> load(properties, null, t));
@@ -117,6 +171,12 @@ public class GenerateJavadocMapMojo extends AbstractJavadocMojo {
                         properties.store(out, name);
                     }
                 }
+
+                Set<String> degraded = breaker.getDegradedHosts(maxHostFailures);
+
+                if (! degraded.isEmpty()) {
+                    log.warn("Degraded javadoc hosts (remote reads skipped): {}", degraded);
+                }
             } else {
                 log.info("Skipping javadoc map generation.");
             }
@@ -133,24 +193,61 @@ public class GenerateJavadocMapMojo extends AbstractJavadocMojo {
         }
     }
 
-    private void load(Properties properties, Artifact artifact, URL javadoc) {
-        URL location = (artifact != null) ? toURL(artifact) : javadoc;
+    private void load(Properties properties, Artifact artifact, URI javadoc) {
+        URI location = javadoc;
         List<String> lines = null;
 
-        for (String name : NAMES) {
-            try {
-                URL url = new URL(location + name);
+        try {
+            if (artifact != null) {
+                location = cache.extract(artifact).toUri();
+            } else if (isLocalJdkElementList()) {
+                Integer release = JdkElementList.getRelease(javadoc);
 
-                try (InputStream in = url.openStream()) {
-                    lines =
-                        new BufferedReader(new InputStreamReader(in, UTF_8)).lines()
-                        .collect(toList());
+                if (release != null) {
+                    lines = JdkElementList.get(release);
                 }
+            }
+
+            if (lines == null) {
+                for (String name : NAMES) {
+                    URL url = location.resolve(name).toURL();
+
+                    try (JfrEvent event = JfrEvent.FETCH.begin()) {
+                        event.set("url", url.toString());
+
+                        try {
+                            if (isRemote(url)) {
+                                JavadocCache.Result result =
+                                    cache.read(url, HOURS.toMillis(cacheTtl), MINUTES.toMillis(cacheMissTtl),
+                                               () -> fetch(url));
 
-                break;
-            } catch (Exception exception) {
-                continue;
+                                lines = result.getLines();
+                                event.set("outcome", result.getSource().name().toLowerCase())
+                                    .set("lockWaitMillis", result.getLockWaitMillis());
+                            } else {
+                                lines = fetch(url);
+                                event.set("outcome", "local");
+                            }
+
+                            if (event.isEnabled()) {
+                                event.set("bytes", lines.stream().mapToLong(t -> t.getBytes(UTF_8).length + 1).sum());
+                            }
+
+                            break;
+                        } catch (FileNotFoundException exception) {
+                            event.set("outcome", "not-found");
+                            log.debug("{}: {}", url, exception.getMessage());
+                            continue;
+                        } catch (Exception exception) {
+                            event.set("outcome", "failed: " + exception.getMessage());
+                            log.debug("{}: {}", url, exception.getMessage());
+                            break;
+                        }
+                    }
+                }
             }
+        } catch (IOException exception) {
+            log.debug("{}: {}", location, exception.getMessage(), exception);
         }
 
         if (lines != null) {
@@ -178,16 +275,95 @@ public class GenerateJavadocMapMojo extends AbstractJavadocMojo {
         }
     }
 
-    private URL toURL(Artifact artifact) {
-        URL url = null;
+    private List<String> fetch(URL url) throws IOException {
+        List<String> lines = null;
+        boolean remote = isRemote(url);
+        long remaining = Long.MAX_VALUE;
+
+        if (remote) {
+            if (breaker.isOpen(url, maxHostFailures)) {
+                throw new IOException(url.getHost() + ": Host is degraded");
+            }
+
+            remaining = deadline - System.currentTimeMillis();
+
+            if (remaining <= 0) {
+                throw new IOException("Remote time budget of " + remoteTimeBudget + "s exhausted");
+            }
+        }
+
+        URLConnection connection = url.openConnection();
+
+        if (remote) {
+            int timeout = (int) Math.min(SECONDS.toMillis(remoteTimeout), remaining);
+
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+        }
 
         try {
-            url = new URI("jar", artifact.getFile().toURI().toASCIIString() + "!/", null).toURL();
-        } catch(URISyntaxException | MalformedURLException exception) {
-            log.debug("{}: {}", artifact, exception.getMessage(), exception);
-            throw new IllegalStateException(exception);
+            if (connection instanceof HttpURLConnection) {
+                HttpURLConnection http = (HttpURLConnection) connection;
+                int code = http.getResponseCode();
+
+                if (code >= HTTP_BAD_REQUEST) {
+                    /*
+                     * Consume the error response so the (keep-alive)
+                     * connection may be reused for the next request.
+                     */
+                    try (InputStream in = http.getErrorStream()) {
+                        if (in != null) {
+                            byte[] buffer = new byte[8192];
+
+                            while (in.read(buffer) >= 0) {
+                            }
+                        }
+                    }
+
+                    String message = String.format("%s: HTTP %d", url, code);
+
+                    /*
+                     * Only 404 and 410 mean the list does not exist; any
+                     * other error (e.g., 401, 403, 408, 429, 5xx) counts
+                     * against the host.
+                     */
+                    if (code == HTTP_NOT_FOUND || code == HTTP_GONE) {
+                        throw new FileNotFoundException(message);
+                    } else {
+                        throw new IOException(message);
+                    }
+                }
+            }
+
+            try (InputStream in = connection.getInputStream()) {
+                lines =
+                    new BufferedReader(new InputStreamReader(in, UTF_8)).lines()
+                    .collect(toList());
+            }
+
+            if (remote) {
+                breaker.success(url);
+            }
+        } catch (FileNotFoundException exception) {
+            if (remote) {
+                breaker.success(url);
+            }
+
+            throw exception;
+        } catch (IOException exception) {
+            if (remote) {
+                breaker.failure(url, exception);
+            }
+
+            throw exception;
         }
 
-        return url;
+        return lines;
+    }
+
+    private boolean isRemote(URL url) {
+        String protocol = url.getProtocol();
+
+        return ! (protocol.equalsIgnoreCase("file") || protocol.equalsIgnoreCase("jar"));
     }
 }
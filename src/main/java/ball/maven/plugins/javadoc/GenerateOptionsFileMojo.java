@@ -20,17 +20,22 @@ package ball.maven.plugins.javadoc;
  */
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.PrintWriter;
-import java.net.URL;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
@@ -43,6 +48,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
@@ -55,7 +61,14 @@ import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME;
 
 /**
  * {@link org.apache.maven.plugin.Mojo} to generate javadoc options file for
- * {@code maven-javadoc-plugin}.
+ * {@code maven-javadoc-plugin}.  If {@code localJdkElementList} is
+ * {@code true}, JDK API documentation links are written as
+ * {@code -linkoffline} options with lists computed from the running JDK.
+ *
+ * Offline link javadoc {@link Artifact}s are extracted in parallel (by
+ * {@code extractionThreads} threads; the number of available processors
+ * if not positive) and the options are written afterwards in the
+ * original order.  Extraction failures are reported together.
  *
  * {@injected.fields}
  *
@@ -69,8 +82,6 @@ import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME;
       defaultPhase = GENERATE_SOURCES, requiresProject = true)
 @NoArgsConstructor @ToString @Slf4j
 public class GenerateOptionsFileMojo extends AbstractJavadocMojo {
-    private static final Pattern JAR_ENTRY_PATTERN = Pattern.compile("^(package|element)[^-]*-list$");
-
     @Parameter(property = "outputDirectory", defaultValue = "${project.build.directory}/javadoc-options")
     private File outputDirectory = null;
 
@@ -80,18 +91,33 @@ public class GenerateOptionsFileMojo extends AbstractJavadocMojo {
     @Parameter(property = "doclet")
     private String doclet = null;
 
+    @Parameter(defaultValue = "0", property = "extractionThreads")
+    private int extractionThreads = 0;
+
     @Inject private MavenProject project = null;
 
+    /**
+     * Method to get the {@link MavenProject}s to analyze.  The default
+     * implementation returns the current {@link MavenProject} only.
+     *
+     * @return  The {@link Collection} of {@link MavenProject}s.
+     */
+    protected Collection<MavenProject> getProjects() {
+        return Collections.singleton(project);
+    }
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         super.execute();
 
         try {
             if (! isSkip()) {
-                Set<URL> set = getLinkSet(project, includeDependencyManagement);
-                Map<URL,List<Artifact>> map =
-                    getResolvedOfflinelinkMap(project, includeDependencyManagement).entrySet().stream()
-                    .collect(groupingBy(Map.Entry::getValue, mapping(Map.Entry::getKey, toList())));
+                Collection<MavenProject> projects = getProjects();
+                Set<URI> set = getLinkSet(projects, includeDependencyManagement);
+                Map<URI,List<Artifact>> map =
+                    getResolvedOfflinelinkMap(projects, includeDependencyManagement).entrySet().stream()
+                    .collect(groupingBy(Map.Entry::getValue, LinkedHashMap::new,
+                                        mapping(Map.Entry::getKey, toList())));
 
                 set.removeAll(map.keySet());
 
@@ -112,11 +138,12 @@ public class GenerateOptionsFileMojo extends AbstractJavadocMojo {
         }
     }
 
-    private void generateOutput(Set<URL> set, Map<URL,List<Artifact>> map) throws IOException {
+    private void generateOutput(Set<URI> set, Map<URI,List<Artifact>> map) throws IOException {
         Path parent = outputDirectory.toPath();
 
         Files.createDirectories(parent);
 
+        Map<Artifact,Path> locations = extract(parent, map);
         Path options = parent.resolve("options");
 
         try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(options, CREATE, WRITE, TRUNCATE_EXISTING))) {
@@ -125,50 +152,129 @@ public class GenerateOptionsFileMojo extends AbstractJavadocMojo {
                 out.println(doclet);
             }
 
-            for (URL url : set) {
-                out.println("-link");
-                out.println(url);
-            }
-
-            for (Map.Entry<URL,List<Artifact>> entry : map.entrySet()) {
-                List<Artifact> artifacts = entry.getValue();
+            for (URI uri : set) {
+                Integer release = isLocalJdkElementList() ? JdkElementList.getRelease(uri) : null;
+                List<String> lines = (release != null) ? JdkElementList.get(release) : null;
 
-                for (Artifact artifact : artifacts) {
-                    Path location = parent.resolve(ArtifactUtils.versionlessKey(artifact));
+                if (lines != null) {
+                    Path location = parent.resolve("jdk-" + release);
 
                     Files.createDirectories(location);
+                    Files.write(location.resolve("element-list"), lines, UTF_8);
+                    Files.write(location.resolve("package-list"), lines, UTF_8);
+
+                    out.println("-linkoffline");
+                    out.println(uri);
+                    out.println(location);
+                } else {
+                    out.println("-link");
+                    out.println(uri);
+                }
+            }
+
+            for (Map.Entry<URI,List<Artifact>> entry : map.entrySet()) {
+                for (Artifact artifact : entry.getValue()) {
+                    Path location = locations.get(artifact);
 
-                    try (JarFile jar = new JarFile(artifact.getFile())) {
-                        List<JarEntry> entries =
-                            jar.stream()
-                            .filter(t -> JAR_ENTRY_PATTERN.matcher(t.getName()).matches())
-                            .collect(toList());
-
-                        if (! entries.isEmpty()) {
-                            for (JarEntry jarEntry : entries) {
-                                try (InputStream in = jar.getInputStream(jarEntry)) {
-                                    Files.copy(in, location.resolve(jarEntry.getName()), REPLACE_EXISTING);
-                                }
-                            }
-
-                            Path packageList = location.resolve("package-list");
-                            Path elementList = location.resolve("element-list");
-
-                            if (! Files.exists(packageList)) {
-                                Files.copy(elementList, packageList);
-                            } else if (! Files.exists(elementList)) {
-                                Files.copy(packageList, elementList);
-                            }
-
-                            out.println("-linkoffline");
-                            out.println(entry.getKey());
-                            out.println(location);
-                        } else {
-                            log.warn("{}: Location directory is empty; skipping...", location);
-                        }
+                    if (location != null) {
+                        out.println("-linkoffline");
+                        out.println(entry.getKey());
+                        out.println(location);
                     }
                 }
             }
         }
     }
+
+    /*
+     * Extracts every Artifact in parallel.  Failures are collected and
+     * reported together after all extractions have completed.
+     */
+    private Map<Artifact,Path> extract(Path parent, Map<URI,List<Artifact>> map) throws IOException {
+        JavadocCache cache = new JavadocCache(getCacheDirectory().toPath());
+        Map<Artifact,Future<Path>> futures = new LinkedHashMap<>();
+        Map<Artifact,Path> locations = new LinkedHashMap<>();
+        int count = (extractionThreads > 0) ? extractionThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+
+        try {
+            map.values().stream()
+                .flatMap(List::stream)
+                .forEach(t -> futures.put(t, executor.submit(() -> extract(cache, parent, t))));
+
+            Map<Artifact,Throwable> failures = new LinkedHashMap<>();
+
+            for (Map.Entry<Artifact,Future<Path>> entry : futures.entrySet()) {
+                try {
+                    locations.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException exception) {
+                    failures.put(entry.getKey(), exception.getCause());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(exception.getMessage());
+                }
+            }
+
+            if (! failures.isEmpty()) {
+                failures.forEach((k, v) -> log.error("{}: {}", k, v.getMessage()));
+
+                IOException exception =
+                    new IOException(String.format("%d of %d javadoc artifact(s) could not be extracted: %s",
+                                                  failures.size(), futures.size(), failures.keySet()));
+
+                failures.values().forEach(exception::addSuppressed);
+
+                throw exception;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return locations;
+    }
+
+    private Path extract(JavadocCache cache, Path parent, Artifact artifact) throws IOException {
+        Path location = parent.resolve(ArtifactUtils.versionlessKey(artifact));
+        List<Path> lists = null;
+
+        try (JfrEvent event = JfrEvent.EXTRACT.begin()) {
+            event.set("coordinates", artifact.toString());
+
+            try {
+                lists = list(cache.extract(artifact));
+
+                event.set("outcome", lists.isEmpty() ? "empty" : "extracted");
+
+                if (event.isEnabled()) {
+                    event.set("bytes", lists.stream().mapToLong(t -> t.toFile().length()).sum());
+                }
+            } catch (IOException exception) {
+                event.set("outcome", "failed: " + exception.getMessage());
+                throw exception;
+            }
+        }
+
+        if (! lists.isEmpty()) {
+            Files.createDirectories(location);
+
+            for (Path list : lists) {
+                Files.copy(list, location.resolve(list.getFileName().toString()), REPLACE_EXISTING);
+            }
+        } else {
+            log.warn("{}: Location directory is empty; skipping...", location);
+            location = null;
+        }
+
+        return location;
+    }
+
+    private List<Path> list(Path directory) throws IOException {
+        List<Path> list = null;
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            list = stream.filter(Files::isRegularFile).sorted().collect(toList());
+        }
+
+        return list;
+    }
 }
@@ -0,0 +1,137 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Build-wide per-host remote read failure tracker.  A host is considered
+ * degraded (and subsequent reads fail fast) once it accumulates the
+ * specified number of consecutive failures.  The instance is shared
+ * through the {@link MavenSession} so the state persists for the rest of
+ * the build.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@NoArgsConstructor(access = PRIVATE) @ToString @Slf4j
+class HostCircuitBreaker {
+    private static final Object KEY = HostCircuitBreaker.class.getName();
+
+    private final Map<String,AtomicInteger> failures = new ConcurrentSkipListMap<>();
+
+    /**
+     * Method to get the {@link HostCircuitBreaker} associated with the
+     * {@link MavenSession}.
+     *
+     * @param   session         The {@link MavenSession}.
+     *
+     * @return  The {@link HostCircuitBreaker}.
+     */
+    public static HostCircuitBreaker get(MavenSession session) {
+        HostCircuitBreaker breaker = null;
+        SessionData data = session.getRepositorySession().getData();
+        Object value = data.get(KEY);
+
+        if (value == null) {
+            data.set(KEY, null, new HostCircuitBreaker());
+            value = data.get(KEY);
+        }
+
+        if (value instanceof HostCircuitBreaker) {
+            breaker = (HostCircuitBreaker) value;
+        } else {
+            /*
+             * Stored by a different plugin realm; track locally.
+             */
+            breaker = new HostCircuitBreaker();
+        }
+
+        return breaker;
+    }
+
+    /**
+     * Method to determine if reads from the {@link URL}'s host should fail
+     * fast.
+     *
+     * @param   url             The {@link URL}.
+     * @param   threshold       The number of consecutive failures after
+     *                          which a host is considered degraded.
+     *
+     * @return  {@code true} if the host is degraded; {@code false}
+     *          otherwise.
+     */
+    public boolean isOpen(URL url, int threshold) {
+        AtomicInteger count = failures.get(url.getHost());
+
+        return count != null && count.get() >= threshold;
+    }
+
+    /**
+     * Method to record a successful read.
+     *
+     * @param   url             The {@link URL}.
+     */
+    public void success(URL url) {
+        failures.remove(url.getHost());
+    }
+
+    /**
+     * Method to record a failed read.
+     *
+     * @param   url             The {@link URL}.
+     * @param   exception       The cause of the failure.
+     */
+    public void failure(URL url, Exception exception) {
+        int count = failures.computeIfAbsent(url.getHost(), k -> new AtomicInteger()).incrementAndGet();
+
+        log.debug("{}: Failure #{}: {}", url.getHost(), count, exception.toString());
+    }
+
+    /**
+     * Method to get the {@link Set} of degraded hosts.
+     *
+     * @param   threshold       The number of consecutive failures after
+     *                          which a host is considered degraded.
+     *
+     * @return  The {@link Set} of degraded host names.
+     */
+    public Set<String> getDegradedHosts(int threshold) {
+        Set<String> set = new TreeSet<>();
+
+        failures.forEach((k, v) -> {
+                if (v.get() >= threshold) {
+                    set.add(k);
+                }
+            });
+
+        return set;
+    }
+}
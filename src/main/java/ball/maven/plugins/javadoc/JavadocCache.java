@@ -0,0 +1,420 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.artifact.Artifact;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Cache of javadoc list files shared by concurrent threads and processes
+ * (typically located in the local repository).  Remote
+ * {@code element-list}/{@code package-list} reads and javadoc
+ * {@link JarFile} extractions are serialized per coordinate with striped
+ * in-process and {@link FileLock file} locks so only one thread or
+ * process downloads or extracts any one entry while the others wait and
+ * reuse the result.  Entries are written to a temporary location and
+ * published with an atomic move so a partial entry is never visible.
+ *
+ * {@bean.info}
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@RequiredArgsConstructor @Getter @ToString @Slf4j
+class JavadocCache {
+    private static final Pattern JAR_ENTRY_PATTERN = Pattern.compile("^(package|element)[^-]*-list$");
+    private static final String ELEMENT_LIST = "element-list";
+    private static final String PACKAGE_LIST = "package-list";
+
+    private static final int STRIPES = 64;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < LOCKS.length; i += 1) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    private final Path root;
+
+    /**
+     * Method to get the directory containing the list files extracted
+     * from a javadoc {@link Artifact}.  The {@code package-list} and
+     * {@code element-list} are synthesized from each other if only one is
+     * present.  The directory is empty if the {@link Artifact} does not
+     * contain any list file.
+     *
+     * @param   artifact        The resolved {@link Artifact}.
+     *
+     * @return  The extracted list file directory.
+     *
+     * @throws  IOException     If the {@link Artifact} cannot be
+     *                          extracted.
+     */
+    public Path extract(Artifact artifact) throws IOException {
+        File file = artifact.getFile();
+        String key =
+            String.join(":",
+                        artifact.getGroupId(), artifact.getArtifactId(),
+                        String.valueOf(artifact.getClassifier()), artifact.getVersion());
+        Path target =
+            root.resolve("extracted")
+            .resolve(artifact.getGroupId()).resolve(artifact.getArtifactId()).resolve(artifact.getVersion())
+            .resolve(String.format("%s-%x-%x", artifact.getClassifier(), file.length(), file.lastModified()));
+
+        if (! Files.isDirectory(target)) {
+            try (Stripe stripe = lock(key)) {
+                if (! Files.isDirectory(target)) {
+                    Files.createDirectories(target.getParent());
+
+                    Path temporary = Files.createTempDirectory(target.getParent(), ".tmp-");
+
+                    try {
+                        try (JarFile jar = new JarFile(file)) {
+                            List<JarEntry> entries =
+                                jar.stream()
+                                .filter(t -> JAR_ENTRY_PATTERN.matcher(t.getName()).matches())
+                                .collect(toList());
+
+                            for (JarEntry entry : entries) {
+                                try (InputStream in = jar.getInputStream(entry)) {
+                                    Files.copy(in, temporary.resolve(entry.getName()), REPLACE_EXISTING);
+                                }
+                            }
+                        }
+
+                        Path packageList = temporary.resolve(PACKAGE_LIST);
+                        Path elementList = temporary.resolve(ELEMENT_LIST);
+
+                        if (Files.exists(elementList) && (! Files.exists(packageList))) {
+                            Files.copy(elementList, packageList);
+                        } else if (Files.exists(packageList) && (! Files.exists(elementList))) {
+                            Files.copy(packageList, elementList);
+                        }
+
+                        Files.move(temporary, target, ATOMIC_MOVE);
+                    } finally {
+                        delete(temporary);
+                    }
+                }
+            }
+        }
+
+        return target;
+    }
+
+    /**
+     * Method to read a remote list file through the cache.  A cached copy
+     * younger than {@code ttl} milliseconds is returned without calling
+     * the {@link Loader}.  A {@link FileNotFoundException} from the
+     * {@link Loader} (which must only be thrown if the list file does not
+     * exist, e.g., HTTP 404 or 410) is cached as a negative entry for
+     * {@code missTtl} milliseconds.  A stale cached copy is returned (but not refreshed) if
+     * the {@link Loader} fails for any other reason.
+     *
+     * @param   url             The list file {@link URL}.
+     * @param   ttl             The time-to-live (in milliseconds).
+     * @param   missTtl         The negative entry time-to-live (in
+     *                          milliseconds).
+     * @param   loader          The {@link Loader} to fetch the list file.
+     *
+     * @return  The {@link Result} (lines of the list file, the
+     *          {@link Source} they were obtained from, and the time spent
+     *          waiting for the stripe lock).
+     *
+     * @throws  FileNotFoundException
+     *                          If the list file does not exist (or a
+     *                          fresh negative entry is cached).
+     * @throws  IOException     If the list file cannot be read.
+     */
+    public Result read(URL url, long ttl, long missTtl, Loader loader) throws IOException {
+        String key = url.toExternalForm();
+        Path target = root.resolve("lists").resolve(digest(key));
+        Path missing = target.resolveSibling(target.getFileName() + ".missing");
+        Source source = Source.CACHED;
+        long wait = 0;
+        List<String> lines = readIfFresh(url, target, missing, ttl, missTtl);
+
+        if (lines == null) {
+            long start = System.nanoTime();
+
+            try (Stripe stripe = lock(key)) {
+                wait = NANOSECONDS.toMillis(System.nanoTime() - start);
+                lines = readIfFresh(url, target, missing, ttl, missTtl);
+
+                if (lines == null) {
+                    try {
+                        lines = loader.load();
+                        source = Source.FETCHED;
+                    } catch (FileNotFoundException exception) {
+                        write(missing, Collections.emptyList());
+                        Files.deleteIfExists(target);
+                        throw exception;
+                    } catch (IOException exception) {
+                        if (Files.isRegularFile(target)) {
+                            log.debug("{}: {}; using stale cached copy", url, exception.getMessage());
+                            lines = Files.readAllLines(target, UTF_8);
+                            source = Source.STALE;
+                        } else {
+                            throw exception;
+                        }
+                    }
+
+                    if (source == Source.FETCHED) {
+                        write(target, lines);
+                        Files.deleteIfExists(missing);
+                    }
+                }
+            }
+        }
+
+        return new Result(lines, source, wait);
+    }
+
+    /**
+     * Method to determine if a local repository file matches its
+     * {@code .sha1} checksum file (if any).  A successful validation is
+     * recorded as a marker keyed by the file's path, size, and
+     * modification time (and those of the checksum file) so unchanged
+     * files are hashed at most once.
+     *
+     * @param   file            The {@link File} to validate.
+     *
+     * @return  {@code true} if there is no checksum file or the checksum
+     *          matches; {@code false} otherwise.
+     *
+     * @throws  IOException     If the files cannot be read.
+     */
+    public boolean isChecksumValid(File file) throws IOException {
+        boolean valid = true;
+        Path sha1 = file.toPath().resolveSibling(file.getName() + ".sha1");
+
+        if (Files.isRegularFile(sha1)) {
+            String key =
+                String.format("%s-%x-%x-%x",
+                              file.getAbsolutePath(), file.length(), file.lastModified(),
+                              sha1.toFile().lastModified());
+            Path marker = root.resolve("checksums").resolve(digest(key));
+
+            if (! Files.isRegularFile(marker)) {
+                String expected = new String(Files.readAllBytes(sha1), UTF_8).trim().split("\\s+")[0];
+                MessageDigest digest = null;
+
+                try {
+                    digest = MessageDigest.getInstance("SHA-1");
+                } catch (NoSuchAlgorithmException exception) {
+                    throw new IllegalStateException(exception);
+                }
+
+                try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+                    byte[] buffer = new byte[8192];
+
+                    while (in.read(buffer) >= 0) {
+                    }
+                }
+
+                valid = expected.equalsIgnoreCase(hex(digest.digest()));
+
+                if (valid) {
+                    write(marker, Collections.emptyList());
+                } else {
+                    log.warn("{}: Checksum mismatch; resolving", file);
+                }
+            }
+        }
+
+        return valid;
+    }
+
+    private List<String> readIfFresh(URL url, Path target, Path missing,
+                                     long ttl, long missTtl) throws IOException {
+        List<String> lines = null;
+
+        if (isFresh(target, ttl)) {
+            lines = Files.readAllLines(target, UTF_8);
+        } else if (isFresh(missing, missTtl)) {
+            throw new FileNotFoundException(url + " (cached)");
+        }
+
+        return lines;
+    }
+
+    private boolean isFresh(Path path, long ttl) throws IOException {
+        boolean fresh = false;
+
+        if (Files.isRegularFile(path)) {
+            FileTime modified = Files.getLastModifiedTime(path);
+
+            fresh = (System.currentTimeMillis() - modified.toMillis() < ttl);
+        }
+
+        return fresh;
+    }
+
+    private void write(Path path, List<String> lines) throws IOException {
+        Files.createDirectories(path.getParent());
+
+        Path temporary = Files.createTempFile(path.getParent(), ".tmp-", null);
+
+        try {
+            Files.write(temporary, lines, UTF_8);
+            Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Stripe lock(String key) throws IOException {
+        int index = Math.floorMod(key.hashCode(), STRIPES);
+        Path path = root.resolve("locks").resolve(index + ".lock");
+
+        Files.createDirectories(path.getParent());
+
+        return new Stripe(LOCKS[index], path);
+    }
+
+    private void delete(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (Stream<Path> stream = Files.walk(path)) {
+                for (Path file : stream.sorted(Comparator.reverseOrder()).collect(toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static String digest(String string) {
+        String digest = null;
+
+        try {
+            digest = hex(MessageDigest.getInstance("SHA-1").digest(string.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        return digest;
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder buffer = new StringBuilder();
+
+        for (byte b : bytes) {
+            buffer.append(String.format("%02x", b));
+        }
+
+        return buffer.toString();
+    }
+
+    /**
+     * Source of a {@link Result}.
+     */
+    public enum Source { CACHED, FETCHED, STALE }
+
+    /**
+     * {@link JavadocCache#read(URL,long,long,Loader)} result.
+     *
+     * {@bean.info}
+     */
+    @Data
+    public static class Result {
+        private final List<String> lines;
+        private final Source source;
+        private final long lockWaitMillis;
+    }
+
+    /**
+     * Functional interface to load a list file on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        List<String> load() throws IOException;
+    }
+
+    /**
+     * Holder of an in-process stripe {@link ReentrantLock} and the
+     * corresponding cross-process {@link FileLock}.
+     */
+    private static class Stripe implements AutoCloseable {
+        private final ReentrantLock lock;
+        private final FileChannel channel;
+
+        public Stripe(ReentrantLock lock, Path path) throws IOException {
+            this.lock = lock;
+            this.lock.lock();
+
+            FileChannel channel = null;
+
+            try {
+                channel = FileChannel.open(path, CREATE, WRITE);
+                channel.lock();
+            } catch (IOException | RuntimeException exception) {
+                if (channel != null) {
+                    channel.close();
+                }
+
+                this.lock.unlock();
+
+                throw exception;
+            }
+
+            this.channel = channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
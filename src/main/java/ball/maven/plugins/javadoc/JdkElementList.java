@@ -0,0 +1,233 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Provider of JDK API {@code element-list}s (or {@code package-list}s
+ * for releases prior to 9) derived from the running JDK without network
+ * access.  The list for the running release is computed from the system
+ * module descriptors (the {@code jrt:/} image) and lists for earlier
+ * releases are computed from {@code $JAVA_HOME/lib/ct.sym}.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@NoArgsConstructor(access = PRIVATE) @ToString @Slf4j
+class JdkElementList {
+    private static final Pattern URL_PATTERN =
+        Pattern.compile("(?i)^https?://docs[.]oracle[.]com/(en/)?(java/)?javase/(?<release>[0-9]+)/docs/api/?$");
+    private static final Pattern DOCUMENTED_MODULE = Pattern.compile("^(java|jdk(?![.]unsupported))[.].+$");
+    private static final Pattern DOCUMENTED_PACKAGE = Pattern.compile("^(java|javax|org)[.].+$");
+    private static final String MODULE_PREFIX = "module:";
+
+    private static final Map<Integer,List<String>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Method to determine the JDK release documented at a {@link URI}.
+     *
+     * @param   uri             The javadoc {@link URI}.
+     *
+     * @return  The JDK release if the {@link URI} is recognized as JDK API
+     *          documentation; {@code null} otherwise.
+     */
+    public static Integer getRelease(URI uri) {
+        Integer release = null;
+        Matcher matcher = URL_PATTERN.matcher(uri.toString());
+
+        if (matcher.matches()) {
+            release = Integer.valueOf(matcher.group("release"));
+        }
+
+        return release;
+    }
+
+    /**
+     * Method to get the list for the specified JDK release.
+     *
+     * @param   release         The JDK release.
+     *
+     * @return  The lines of the list or {@code null} if the list cannot be
+     *          computed from the running JDK.
+     */
+    public static List<String> get(int release) {
+        List<String> lines = CACHE.get(release);
+
+        if (lines == null) {
+            try {
+                lines = compute(release);
+
+                if (lines != null) {
+                    CACHE.putIfAbsent(release, lines);
+                }
+            } catch (Exception exception) {
+                log.debug("JDK {}: {}", release, exception.getMessage(), exception);
+            }
+        }
+
+        return lines;
+    }
+
+    private static List<String> compute(int release) throws Exception {
+        Map<String,Set<String>> map = null;
+        int running = getRunningRelease();
+
+        if (release == running && running >= 9) {
+            map = getSystemModuleExports();
+        } else if (release < running && running >= 9) {
+            map = getCtSymPackages(release);
+        }
+
+        List<String> lines = null;
+
+        if (map != null && (! map.isEmpty())) {
+            lines = new ArrayList<>();
+
+            if (release >= 9) {
+                for (Map.Entry<String,Set<String>> entry : map.entrySet()) {
+                    lines.add(MODULE_PREFIX + entry.getKey());
+                    lines.addAll(entry.getValue());
+                }
+            } else {
+                map.values().stream()
+                    .flatMap(Collection::stream)
+                    .filter(t -> DOCUMENTED_PACKAGE.matcher(t).matches())
+                    .sorted().distinct()
+                    .forEach(lines::add);
+            }
+
+            lines = Collections.unmodifiableList(lines);
+        }
+
+        return lines;
+    }
+
+    private static int getRunningRelease() {
+        String version = System.getProperty("java.specification.version");
+
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+
+        return Integer.parseInt(version);
+    }
+
+    /*
+     * The running JDK may be newer than the compilation target so the
+     * java.lang.module API is accessed reflectively.  The system modules
+     * are only used if the image is a full SE platform (java.se is
+     * present); only java.* and jdk.* modules (those documented at
+     * docs.oracle.com) are included.  jdk.unsupported* modules export
+     * packages (e.g., sun.misc) that are not documented and are excluded.
+     */
+    private static Map<String,Set<String>> getSystemModuleExports() throws Exception {
+        Map<String,Set<String>> map = null;
+        Class<?> finder = Class.forName("java.lang.module.ModuleFinder");
+        Class<?> reference = Class.forName("java.lang.module.ModuleReference");
+        Class<?> descriptor = Class.forName("java.lang.module.ModuleDescriptor");
+        Class<?> exports = Class.forName("java.lang.module.ModuleDescriptor$Exports");
+        Method descriptorMethod = reference.getMethod("descriptor");
+        Method nameMethod = descriptor.getMethod("name");
+        Method exportsMethod = descriptor.getMethod("exports");
+        Method isQualifiedMethod = exports.getMethod("isQualified");
+        Method sourceMethod = exports.getMethod("source");
+        Object system = finder.getMethod("ofSystem").invoke(null);
+        Optional<?> se = (Optional<?>) finder.getMethod("find", String.class).invoke(system, "java.se");
+
+        if (se.isPresent()) {
+            map = new TreeMap<>();
+
+            for (Object module : (Set<?>) finder.getMethod("findAll").invoke(system)) {
+                Object object = descriptorMethod.invoke(module);
+                String name = (String) nameMethod.invoke(object);
+
+                if (DOCUMENTED_MODULE.matcher(name).matches()) {
+                    for (Object export : (Set<?>) exportsMethod.invoke(object)) {
+                        if (! ((Boolean) isQualifiedMethod.invoke(export))) {
+                            map.computeIfAbsent(name, k -> new TreeSet<>()).add((String) sourceMethod.invoke(export));
+                        }
+                    }
+                }
+            }
+        } else {
+            log.debug("Runtime image is not a full SE platform (no java.se module)");
+        }
+
+        return map;
+    }
+
+    /*
+     * ct.sym entries are of the form <releases>/<module>/<package>/<type>.sig
+     * where <releases> is the set of release "digits" (7-9, then A=10,
+     * B=11, ...) in which the entry is present.  The same module filter
+     * is applied as for the system modules; for releases prior to 9,
+     * compute() further restricts the list to the java.*, javax.*, and
+     * org.* packages documented at docs.oracle.com.
+     */
+    private static Map<String,Set<String>> getCtSymPackages(int release) throws IOException {
+        Map<String,Set<String>> map = null;
+        Path path = Paths.get(System.getProperty("java.home"), "lib", "ct.sym");
+
+        if (Files.isRegularFile(path)) {
+            String digit = Character.toString(Character.toUpperCase(Character.forDigit(release, Character.MAX_RADIX)));
+
+            map = new TreeMap<>();
+
+            try (ZipFile zip = new ZipFile(path.toFile())) {
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    String[] names = entry.getName().split("/");
+
+                    if (names.length > 3 && names[0].contains(digit) && names[names.length - 1].endsWith(".sig")
+                        && DOCUMENTED_MODULE.matcher(names[1]).matches()) {
+                        String pkg = String.join(".", Arrays.asList(names).subList(2, names.length - 1));
+
+                        map.computeIfAbsent(names[1], k -> new TreeSet<>()).add(pkg);
+                    }
+                }
+            }
+        }
+
+        return map;
+    }
+}
@@ -0,0 +1,222 @@
+package ball.maven.plugins.javadoc;
+/*-
+ * ##########################################################################
+ * Javadoc Maven Plugin
+ * %%
+ * Copyright (C) 2021 - 2023 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Java Flight Recorder event wrapper.  The event types are defined at
+ * runtime through {@code jdk.jfr.EventFactory} (accessed reflectively
+ * because the plugin targets Java 8) and every operation is a no-op if
+ * JFR is unavailable or no recording has the event enabled.  Callers
+ * should guard the computation of expensive field values with
+ * {@link #isEnabled()}.
+ *
+ * <pre>{@code
+ * try (JfrEvent event = JfrEvent.FETCH.begin()) {
+ *     event.set("url", url.toString());
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@ToString @Slf4j
+class JfrEvent implements AutoCloseable {
+
+    /**
+     * Javadoc {@link org.apache.maven.artifact.Artifact} resolution.
+     */
+    public static final Type RESOLVE =
+        new Type("ball.javadoc.Resolve", "Javadoc Artifact Resolution",
+                 "coordinates", String.class, "bytes", long.class, "outcome", String.class);
+
+    /**
+     * {@code element-list}/{@code package-list} read.  The outcome is one
+     * of {@code cached}, {@code fetched}, {@code stale}, {@code local},
+     * {@code not-found}, or {@code failed: <i>message</i>}.
+     */
+    public static final Type FETCH =
+        new Type("ball.javadoc.Fetch", "Javadoc List Read",
+                 "url", String.class, "bytes", long.class, "outcome", String.class,
+                 "lockWaitMillis", long.class);
+
+    /**
+     * Javadoc {@link java.util.jar.JarFile} list extraction.
+     */
+    public static final Type EXTRACT =
+        new Type("ball.javadoc.Extract", "Javadoc Jar Extraction",
+                 "coordinates", String.class, "bytes", long.class, "outcome", String.class);
+
+    private static final JfrEvent DISABLED = new JfrEvent(null, null);
+
+    private final Type type;
+    private final Object event;
+
+    private JfrEvent(Type type, Object event) {
+        this.type = type;
+        this.event = event;
+    }
+
+    /**
+     * Method to determine if this event is enabled (will be committed to
+     * a recording).
+     *
+     * @return  {@code true} if enabled; {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return event != null;
+    }
+
+    /**
+     * Method to set a field value.
+     *
+     * @param   name            The field name.
+     * @param   value           The value.
+     *
+     * @return  This {@link JfrEvent}.
+     */
+    public JfrEvent set(String name, Object value) {
+        if (event != null) {
+            int index = type.names.indexOf(name);
+
+            if (index < 0) {
+                throw new IllegalArgumentException(name);
+            }
+
+            type.invoke(type.set, event, index, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Method to end and commit the event.
+     */
+    @Override
+    public void close() {
+        if (event != null) {
+            type.invoke(type.end, event);
+            type.invoke(type.commit, event);
+        }
+    }
+
+    /**
+     * {@link JfrEvent} type.
+     */
+    @ToString(of = { "name" })
+    public static class Type {
+        private static final String[] CATEGORY = new String[] { "Maven", "Javadoc" };
+
+        private final String name;
+        private final List<String> names = new ArrayList<>();
+        private Object factory = null;
+        private Object eventType = null;
+        private Method newEvent = null;
+        private Method isEnabled = null;
+        private Method begin = null;
+        private Method set = null;
+        private Method end = null;
+        private Method commit = null;
+
+        private Type(String name, String label, Object... fields) {
+            this.name = name;
+
+            try {
+                Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+                Constructor<?> annotation =
+                    Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+                Constructor<?> descriptor =
+                    Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+                List<Object> annotations =
+                    Arrays.asList(annotation.newInstance(annotation("jdk.jfr.Name"), name),
+                                  annotation.newInstance(annotation("jdk.jfr.Label"), label),
+                                  annotation.newInstance(annotation("jdk.jfr.Category"), CATEGORY));
+                List<Object> descriptors = new ArrayList<>();
+
+                for (int i = 0; i < fields.length; i += 2) {
+                    names.add((String) fields[i]);
+                    descriptors.add(descriptor.newInstance((Class<?>) fields[i + 1], (String) fields[i]));
+                }
+
+                factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, descriptors);
+                eventType = factoryClass.getMethod("getEventType").invoke(factory);
+                newEvent = factoryClass.getMethod("newEvent");
+                isEnabled = eventTypeClass.getMethod("isEnabled");
+                begin = eventClass.getMethod("begin");
+                set = eventClass.getMethod("set", int.class, Object.class);
+                end = eventClass.getMethod("end");
+                commit = eventClass.getMethod("commit");
+            } catch (Throwable throwable) {
+                log.debug("{}: JFR events not available: {}", name, throwable.toString());
+                factory = null;
+            }
+        }
+
+        /**
+         * Method to create and begin a {@link JfrEvent} of this type.
+         *
+         * @return  The {@link JfrEvent} (a no-op instance if JFR is
+         *          unavailable or the event is not enabled).
+         */
+        public JfrEvent begin() {
+            JfrEvent event = DISABLED;
+
+            /*
+             * The EventType is consulted first so no event is instantiated
+             * unless a recording has this type enabled.
+             */
+            if (factory != null && Boolean.TRUE.equals(invoke(isEnabled, eventType))) {
+                Object object = invoke(newEvent, factory);
+
+                if (object != null) {
+                    invoke(begin, object);
+                    event = new JfrEvent(this, object);
+                }
+            }
+
+            return event;
+        }
+
+        private Object invoke(Method method, Object target, Object... arguments) {
+            Object value = null;
+
+            try {
+                value = method.invoke(target, arguments);
+            } catch (Exception exception) {
+                log.debug("{}: {}: {}", name, method.getName(), exception.toString());
+            }
+
+            return value;
+        }
+
+        private static Class<? extends Annotation> annotation(String name) throws ClassNotFoundException {
+            return Class.forName(name).asSubclass(Annotation.class);
+        }
+    }
+}
@@ -19,6 +19,8 @@ package ball.maven.plugins.javadoc;
  * ##########################################################################
  */
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -37,7 +39,12 @@ import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toSet;
 
 /**
- * {@code <link/>} parameter.
+ * {@code <link/>} parameter.  The {@code url} is kept as a {@link String}
+ * and exposed as a normalized {@link URI} (with a trailing {@code '/'})
+ * so {@link java.util.Set} and {@link java.util.Map} operations never
+ * trigger the host name resolution performed by
+ * {@link java.net.URL#equals(Object)} and
+ * {@link java.net.URL#hashCode()}.
  *
  * {@bean.info}
  *
@@ -49,7 +56,7 @@ public class Link {
     private static final Pattern DOT = Pattern.compile("[.]");
 
     private String artifact = null;
-    private URL url = null;
+    private String url = null;
 
     /**
      * See {@link StrictPatternIncludesArtifactFilter#include(Artifact)}.
@@ -71,37 +78,134 @@ public class Link {
     }
 
     /**
-     * Method to return a {@link URL} substituting <code>{g}</code>,
-     * <code>{a}</code>, and <code>{v}</code> with
+     * Method to return the normalized {@link URI} without substitution.
+     *
+     * @return  The {@link URI}.
+     */
+    public URI toURI() {
+        return toURI(null);
+    }
+
+    /**
+     * Method to return a normalized {@link URI} substituting
+     * <code>{g}</code>, <code>{a}</code>, and <code>{v}</code> with
      * {@link Artifact#getGroupId()}, {@link Artifact#getArtifactId()}, and
      * {@link Artifact#getVersion()}, respectively.
      *
-     * @param   artifact        The {@link Artifact}.
+     * @param   artifact        The {@link Artifact} (may be
+     *                          {@code null}).
      *
-     * @return  The {@link URL} after substitution.
+     * @return  The {@link URI} after substitution.
      */
-    public URL getUrl(Artifact artifact) {
-        URL url = getUrl();
+    public URI toURI(Artifact artifact) {
+        URI uri = null;
+        String string = getUrl();
 
-        if (url != null && artifact != null) {
-            TreeMap<String,String> map = new MapImpl(artifact);
-            StringSubstitutor substitutor = new StringSubstitutor((StringLookup) map, "{", "}", '\\');
+        if (string != null) {
+            if (artifact != null) {
+                TreeMap<String,String> map = new MapImpl(artifact);
+                StringSubstitutor substitutor = new StringSubstitutor((StringLookup) map, "{", "}", '\\');
 
-            substitutor.setEnableSubstitutionInVariables(true);
+                substitutor.setEnableSubstitutionInVariables(true);
 
-            String string = url.toString();
+                try {
+                    string = substitutor.replace(string);
+                } catch (NoSuchElementException exception) {
+                    throw new IllegalArgumentException(String.format("No value defined for '%s' in '%s'",
+                                                                     exception.getMessage(), string));
+                }
+            }
 
             try {
-                url = new URL(substitutor.replace(string));
-            } catch (MalformedURLException exception) {
-                throw new IllegalArgumentException(exception);
-            } catch (NoSuchElementException exception) {
-                throw new IllegalArgumentException(String.format("No value defined for '%s' in '%s'",
-                                                                 exception.getMessage(), string));
+                uri = normalize(string);
+            } catch (IllegalArgumentException exception) {
+                throw new IllegalArgumentException(String.format("<%s/> has invalid url '%s': %s",
+                                                                 getClass().getSimpleName().toLowerCase(),
+                                                                 string, exception.getMessage()),
+                                                   exception);
+            }
+        }
+
+        return uri;
+    }
+
+    /**
+     * Method to normalize a {@link URI} {@link String}: dot segments are
+     * removed, the scheme and host are converted to lower case, and a
+     * trailing {@code '/'} is added to the path if necessary.
+     *
+     * @param   string          The {@link URI} {@link String}.
+     *
+     * @return  The normalized {@link URI}.
+     *
+     * @throws  IllegalArgumentException
+     *                          If the argument cannot be parsed as a
+     *                          {@link URI} even after encoding.
+     */
+    public static URI normalize(String string) {
+        URI uri = parse(string.trim()).normalize();
+
+        if (uri.isAbsolute() && (! uri.isOpaque())) {
+            String scheme = uri.getScheme().toLowerCase();
+            String authority = uri.getRawAuthority();
+
+            if (uri.getHost() != null) {
+                authority = authority.replace(uri.getHost(), uri.getHost().toLowerCase());
+            }
+
+            String path = (uri.getRawPath() != null) ? uri.getRawPath() : "";
+
+            if (uri.getRawQuery() == null && uri.getRawFragment() == null && (! path.endsWith("/"))) {
+                path += "/";
+            }
+
+            StringBuilder buffer = new StringBuilder(scheme).append(":");
+
+            if (authority != null) {
+                buffer.append("//").append(authority);
+            }
+
+            buffer.append(path);
+
+            if (uri.getRawQuery() != null) {
+                buffer.append("?").append(uri.getRawQuery());
+            }
+
+            if (uri.getRawFragment() != null) {
+                buffer.append("#").append(uri.getRawFragment());
+            }
+
+            uri = URI.create(buffer.toString());
+        }
+
+        return uri;
+    }
+
+    /*
+     * Values accepted by java.net.URL (e.g., file: paths with spaces) are
+     * not necessarily valid URIs; such values are re-encoded with the
+     * multi-argument URI constructor.
+     */
+    private static URI parse(String string) {
+        URI uri = null;
+
+        try {
+            uri = new URI(string);
+        } catch (URISyntaxException exception) {
+            try {
+                URL url = new URL(string);
+
+                uri =
+                    new URI(url.getProtocol(), url.getUserInfo(), url.getHost(), url.getPort(),
+                            url.getPath(), url.getQuery(), url.getRef());
+            } catch (MalformedURLException | URISyntaxException suppressed) {
+                exception.addSuppressed(suppressed);
+
+                throw new IllegalArgumentException(exception.getMessage(), exception);
             }
         }
 
-        return url;
+        return uri;
     }
 
     private class MapImpl extends TreeMap<String,String> implements StringLookup {